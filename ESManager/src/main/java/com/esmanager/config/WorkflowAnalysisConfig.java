@@ -0,0 +1,9 @@
+package com.esmanager.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(WorkflowAnalysisProperties.class)
+public class WorkflowAnalysisConfig {
+}
@@ -0,0 +1,14 @@
+package com.esmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "workflow.analysis")
+public class WorkflowAnalysisProperties {
+
+    private boolean enabled = true;
+    private boolean failFast = false;
+    private int maxPageSearchSize = 10000;
+    private int maxPrimaryShards = 1;
+}
@@ -1,9 +1,11 @@
 package com.esmanager.controller;
 
 import com.esmanager.model.OperationResult;
+import com.esmanager.model.WorkflowAnalysisReport;
 import com.esmanager.model.WorkflowSummary;
 import com.esmanager.service.ElasticsearchWorkflowService;
 import com.esmanager.workflow.WorkflowRegistry;
+import com.esmanager.workflow.analysis.WorkflowPerformanceAnalyzer;
 import com.fasterxml.jackson.databind.JsonNode;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -27,6 +29,7 @@ public class WorkflowController {
 
     private final ElasticsearchWorkflowService workflowService;
     private final WorkflowRegistry workflowRegistry;
+    private final WorkflowPerformanceAnalyzer performanceAnalyzer;
 
     @GetMapping
     @Operation(summary = "List registered workflows")
@@ -83,4 +86,10 @@ public class WorkflowController {
     public JsonNode getTransform(@Parameter(description = "Workflow identifier") @PathVariable("workflowId") String workflowId) {
         return workflowRegistry.getRequired(workflowId).transformJson();
     }
+
+    @GetMapping("/{workflowId}/analysis")
+    @Operation(summary = "Get performance findings and suggested rewrites for the workflow definitions")
+    public WorkflowAnalysisReport getAnalysis(@Parameter(description = "Workflow identifier") @PathVariable("workflowId") String workflowId) {
+        return performanceAnalyzer.getReport(workflowId);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.esmanager.model;
+
+public enum FindingSeverity {
+    INFO,
+    WARNING
+}
@@ -0,0 +1,8 @@
+package com.esmanager.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+public record WorkflowAnalysisReport(String workflowId, List<WorkflowFinding> findings, JsonNode rewrittenSchema, JsonNode rewrittenTransform) {
+}
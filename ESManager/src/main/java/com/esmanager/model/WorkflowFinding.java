@@ -0,0 +1,4 @@
+package com.esmanager.model;
+
+public record WorkflowFinding(String ruleId, FindingSeverity severity, String resource, String path, String message, boolean rewritable) {
+}
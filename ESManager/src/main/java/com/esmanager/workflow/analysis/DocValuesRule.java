@@ -0,0 +1,67 @@
+package com.esmanager.workflow.analysis;
+
+import com.esmanager.model.FindingSeverity;
+import com.esmanager.model.WorkflowFinding;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Checks destination mapping hygiene for group-by outputs. These fields identify each bucket and are what consumers
+ * of the destination index sort, filter and aggregate on, so they should keep doc values and not be mapped as text.
+ * Only the destination mapping is inspected; the source index mapping is not available to the service.
+ * Re-enabling doc values does not change the indexed content.
+ */
+@Component
+public class DocValuesRule implements WorkflowAnalysisRule {
+
+    @Override
+    public String id() {
+        return "doc-values";
+    }
+
+    @Override
+    public List<WorkflowFinding> analyze(JsonNode schema, JsonNode transform) {
+        List<WorkflowFinding> findings = new ArrayList<>();
+        JsonNode properties = WorkflowDefinitions.mappingProperties(schema);
+        for (String groupBy : WorkflowDefinitions.groupBy(transform).keySet()) {
+            Optional<List<String>> mappingPath = WorkflowDefinitions.mappingPath(properties, groupBy);
+            if (mappingPath.isEmpty()) {
+                continue;
+            }
+            JsonNode mapping = WorkflowDefinitions.mapping(properties, groupBy);
+            List<String> segments = new ArrayList<>(List.of("mappings", "properties"));
+            segments.addAll(mappingPath.get());
+            String path = WorkflowDefinitions.pointer(segments.toArray(String[]::new));
+            if ("text".equals(mapping.path("type").asText())) {
+                findings.add(new WorkflowFinding(id(), FindingSeverity.WARNING, WorkflowDefinitions.SCHEMA, path,
+                        "Destination field '" + groupBy + "' for a group-by output is mapped as text, which cannot be sorted or aggregated; map it as keyword",
+                        false));
+            } else if (hasDocValuesDisabled(mapping)) {
+                findings.add(new WorkflowFinding(id(), FindingSeverity.WARNING, WorkflowDefinitions.SCHEMA, path,
+                        "Destination field '" + groupBy + "' for a group-by output disables doc_values, so it cannot be sorted or aggregated efficiently",
+                        true));
+            }
+        }
+        return findings;
+    }
+
+    @Override
+    public void rewrite(ObjectNode schema, ObjectNode transform) {
+        JsonNode properties = WorkflowDefinitions.mappingProperties(schema);
+        for (String groupBy : WorkflowDefinitions.groupBy(transform).keySet()) {
+            if (WorkflowDefinitions.mapping(properties, groupBy) instanceof ObjectNode mapping && hasDocValuesDisabled(mapping)) {
+                mapping.remove("doc_values");
+            }
+        }
+    }
+
+    private boolean hasDocValuesDisabled(JsonNode mapping) {
+        JsonNode docValues = mapping.path("doc_values");
+        return !docValues.isMissingNode() && !docValues.asBoolean(true);
+    }
+}
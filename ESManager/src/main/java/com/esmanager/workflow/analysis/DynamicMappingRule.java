@@ -0,0 +1,158 @@
+package com.esmanager.workflow.analysis;
+
+import com.esmanager.model.FindingSeverity;
+import com.esmanager.model.WorkflowFinding;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Flags destination indices that map new fields dynamically, including schemas without mappings,
+ * {@code dynamic: runtime} and object mappings that re-enable it. When every field the pivot writes is explicitly
+ * mapped the rewrite disables dynamic mapping at the root, which stops unexpected fields from triggering
+ * cluster-state mapping updates. Object mappings are only reported.
+ */
+@Component
+public class DynamicMappingRule implements WorkflowAnalysisRule {
+
+    private static final List<String> SINGLE_VALUE_AGGREGATIONS = List.of("avg", "sum", "min", "max", "value_count",
+            "cardinality", "median_absolute_deviation", "weighted_avg", "bucket_script");
+    private static final List<String> STATS_FIELDS = List.of("count", "min", "max", "avg", "sum");
+
+    @Override
+    public String id() {
+        return "dynamic-mapping";
+    }
+
+    @Override
+    public List<WorkflowFinding> analyze(JsonNode schema, JsonNode transform) {
+        List<WorkflowFinding> findings = new ArrayList<>();
+        if (!schema.has("mappings")) {
+            findings.add(new WorkflowFinding(id(), FindingSeverity.WARNING, WorkflowDefinitions.SCHEMA,
+                    WorkflowDefinitions.pointer("mappings"),
+                    "Destination schema has no mappings; every transform output is mapped dynamically",
+                    false));
+            return findings;
+        }
+        JsonNode mappings = schema.path("mappings");
+        // dynamic defaults to true when omitted at the root
+        if (isDynamic(mappings.path("dynamic"), true)) {
+            Set<String> unmapped = unmappedOutputs(schema, transform);
+            String message = unmapped.isEmpty()
+                    ? "Destination mappings allow dynamic fields; all transform outputs are mapped, so dynamic mapping can be disabled"
+                    : "Destination mappings allow dynamic fields and transform outputs " + unmapped + " are not fully mapped explicitly";
+            findings.add(new WorkflowFinding(id(), FindingSeverity.WARNING, WorkflowDefinitions.SCHEMA,
+                    WorkflowDefinitions.pointer("mappings", "dynamic"), message, unmapped.isEmpty()));
+        }
+        checkObjectMappings(findings, mappings.path("properties"), List.of("mappings", "properties"));
+        return findings;
+    }
+
+    @Override
+    public void rewrite(ObjectNode schema, ObjectNode transform) {
+        if (schema.path("mappings") instanceof ObjectNode mappings
+                && isDynamic(mappings.path("dynamic"), true)
+                && unmappedOutputs(schema, transform).isEmpty()) {
+            mappings.put("dynamic", "false");
+        }
+    }
+
+    private void checkObjectMappings(List<WorkflowFinding> findings, JsonNode properties, List<String> path) {
+        Iterator<Map.Entry<String, JsonNode>> iterator = properties.fields();
+        while (iterator.hasNext()) {
+            Map.Entry<String, JsonNode> entry = iterator.next();
+            List<String> fieldPath = new ArrayList<>(path);
+            fieldPath.add(entry.getKey());
+            // object mappings inherit from their parent, so only an explicit setting is reported
+            if (isDynamic(entry.getValue().path("dynamic"), false)) {
+                List<String> dynamicPath = new ArrayList<>(fieldPath);
+                dynamicPath.add("dynamic");
+                findings.add(new WorkflowFinding(id(), FindingSeverity.WARNING, WorkflowDefinitions.SCHEMA,
+                        WorkflowDefinitions.pointer(dynamicPath.toArray(String[]::new)),
+                        "Object mapping '" + entry.getKey() + "' allows dynamic fields",
+                        false));
+            }
+            JsonNode nested = entry.getValue().path("properties");
+            if (nested.isObject()) {
+                fieldPath.add("properties");
+                checkObjectMappings(findings, nested, fieldPath);
+            }
+        }
+    }
+
+    private boolean isDynamic(JsonNode dynamic, boolean whenMissing) {
+        if (dynamic.isMissingNode() || dynamic.isNull()) {
+            return whenMissing;
+        }
+        String value = dynamic.asText();
+        return "true".equals(value) || "runtime".equals(value);
+    }
+
+    /**
+     * Outputs whose every written field is not explicitly mapped. Single-value aggregations and group-by keys write
+     * one field; stats and top_metrics write known sub-fields; any other aggregation writes sub-fields that cannot be
+     * derived from the definition and is always reported.
+     */
+    private Set<String> unmappedOutputs(JsonNode schema, JsonNode transform) {
+        JsonNode properties = WorkflowDefinitions.mappingProperties(schema);
+        Set<String> unmapped = new LinkedHashSet<>();
+        for (String groupBy : WorkflowDefinitions.groupBy(transform).keySet()) {
+            if (!WorkflowDefinitions.isLeafMapping(WorkflowDefinitions.mapping(properties, groupBy))) {
+                unmapped.add(groupBy);
+            }
+        }
+        for (Map.Entry<String, JsonNode> entry : WorkflowDefinitions.aggregations(transform).entrySet()) {
+            Optional<List<String>> subFields = outputSubFields(entry.getValue());
+            JsonNode mapping = WorkflowDefinitions.mapping(properties, entry.getKey());
+            boolean mapped = subFields
+                    .map(fields -> fields.isEmpty()
+                            ? WorkflowDefinitions.isLeafMapping(mapping)
+                            : fields.stream().allMatch(field -> WorkflowDefinitions.isLeafMapping(
+                                    WorkflowDefinitions.mapping(mapping.path("properties"), field))))
+                    .orElse(false);
+            if (!mapped) {
+                unmapped.add(entry.getKey());
+            }
+        }
+        return unmapped;
+    }
+
+    /**
+     * Sub-fields the aggregation writes under its output name: empty for single-value aggregations, or
+     * {@link Optional#empty()} when they cannot be determined.
+     */
+    private Optional<List<String>> outputSubFields(JsonNode aggregation) {
+        if (aggregation.has("aggs") || aggregation.has("aggregations")) {
+            return Optional.empty();
+        }
+        for (String type : SINGLE_VALUE_AGGREGATIONS) {
+            if (aggregation.has(type)) {
+                return Optional.of(List.of());
+            }
+        }
+        if (aggregation.has("stats")) {
+            return Optional.of(STATS_FIELDS);
+        }
+        JsonNode metrics = aggregation.path("top_metrics").path("metrics");
+        if (metrics.isObject() || metrics.isArray()) {
+            List<String> fields = new ArrayList<>();
+            Iterable<JsonNode> metricEntries = metrics.isArray() ? metrics : List.of(metrics);
+            for (JsonNode metric : metricEntries) {
+                if (!metric.path("field").isTextual()) {
+                    return Optional.empty();
+                }
+                fields.add(metric.path("field").asText());
+            }
+            return Optional.of(fields);
+        }
+        return Optional.empty();
+    }
+}
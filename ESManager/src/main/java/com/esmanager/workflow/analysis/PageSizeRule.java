@@ -0,0 +1,62 @@
+package com.esmanager.workflow.analysis;
+
+import com.esmanager.config.WorkflowAnalysisProperties;
+import com.esmanager.model.FindingSeverity;
+import com.esmanager.model.WorkflowFinding;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flags transforms whose composite search page size exceeds the configured ceiling. Page size only controls how
+ * many buckets are fetched per search, so clamping it leaves the transform output unchanged.
+ */
+@Component
+@RequiredArgsConstructor
+public class PageSizeRule implements WorkflowAnalysisRule {
+
+    private final WorkflowAnalysisProperties properties;
+
+    @Override
+    public String id() {
+        return "page-size";
+    }
+
+    @Override
+    public List<WorkflowFinding> analyze(JsonNode schema, JsonNode transform) {
+        List<WorkflowFinding> findings = new ArrayList<>();
+        // max_page_search_size moved from pivot to settings; older definitions may still use the pivot location
+        checkPageSize(findings, transform.path("settings"), "settings");
+        checkPageSize(findings, transform.path("pivot"), "pivot");
+        return findings;
+    }
+
+    @Override
+    public void rewrite(ObjectNode schema, ObjectNode transform) {
+        clampPageSize(transform.path("settings"));
+        clampPageSize(transform.path("pivot"));
+    }
+
+    private void checkPageSize(List<WorkflowFinding> findings, JsonNode parent, String parentName) {
+        JsonNode pageSize = parent.path("max_page_search_size");
+        if (pageSize.canConvertToInt() && pageSize.asInt() > properties.getMaxPageSearchSize()) {
+            findings.add(new WorkflowFinding(id(), FindingSeverity.WARNING, WorkflowDefinitions.TRANSFORM,
+                    WorkflowDefinitions.pointer(parentName, "max_page_search_size"),
+                    "max_page_search_size " + pageSize.asInt() + " exceeds the limit of " + properties.getMaxPageSearchSize(),
+                    true));
+        }
+    }
+
+    private void clampPageSize(JsonNode parent) {
+        if (parent instanceof ObjectNode parentNode) {
+            JsonNode pageSize = parentNode.path("max_page_search_size");
+            if (pageSize.canConvertToInt() && pageSize.asInt() > properties.getMaxPageSearchSize()) {
+                parentNode.put("max_page_search_size", properties.getMaxPageSearchSize());
+            }
+        }
+    }
+}
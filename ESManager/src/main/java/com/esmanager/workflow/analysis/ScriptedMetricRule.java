@@ -0,0 +1,189 @@
+package com.esmanager.workflow.analysis;
+
+import com.esmanager.model.FindingSeverity;
+import com.esmanager.model.WorkflowFinding;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Flags Painless scripted_metric aggregations. Scripts that only keep the latest (or earliest) value of a field
+ * get a top_metrics suggestion. No rewrite is offered because top_metrics writes its result to
+ * {@code <aggregation>.<field>}, which changes the destination document shape.
+ */
+@Component
+public class ScriptedMetricRule implements WorkflowAnalysisRule {
+
+    private static final Pattern DATE_ASSIGNMENT = Pattern.compile(
+            "\\b(\\w+)\\s*=\\s*doc\\['([^']+)'\\]\\.value(?:\\.toInstant\\(\\)\\.toEpochMilli\\(\\)|\\.toInstant\\(\\)|\\.millis|\\.toEpochMilli\\(\\))\\s*;");
+    private static final Pattern VALUE_ASSIGNMENT = Pattern.compile("\\b(\\w+)\\s*=\\s*doc\\['([^']+)'\\]\\.value\\s*;");
+    private static final Pattern DOC_FIELD = Pattern.compile("doc\\['([^']+)'\\]");
+    private static final Pattern STATE_COMPARISON = Pattern.compile("\\b(\\w+)\\s*([<>])=?\\s*state\\.(\\w+)");
+    private static final Pattern RETURN_STATEMENT = Pattern.compile("\\breturn\\b([^;]*);");
+    private static final Pattern FIELD_COMPARISON = Pattern.compile("\\b\\w+\\.(\\w+)\\s*([<>])=?\\s*\\w+\\.(\\w+)");
+
+    @Override
+    public String id() {
+        return "scripted-metric";
+    }
+
+    @Override
+    public List<WorkflowFinding> analyze(JsonNode schema, JsonNode transform) {
+        List<WorkflowFinding> findings = new ArrayList<>();
+        String aggregationsKey = WorkflowDefinitions.aggregationsKey(transform);
+        for (Map.Entry<String, JsonNode> entry : WorkflowDefinitions.aggregations(transform).entrySet()) {
+            JsonNode scriptedMetric = entry.getValue().path("scripted_metric");
+            if (scriptedMetric.isMissingNode()) {
+                continue;
+            }
+            String path = WorkflowDefinitions.pointer("pivot", aggregationsKey, entry.getKey());
+            String message = matchLatestValue(scriptedMetric)
+                    .map(match -> "Aggregation '" + entry.getKey() + "' uses a scripted_metric to keep the " + match.describe()
+                            + "; " + match.topMetrics() + " computes the same value natively, but writes it to '"
+                            + entry.getKey() + "." + match.metricField() + "' and so requires a destination mapping change")
+                    .orElse("Aggregation '" + entry.getKey() + "' uses a scripted_metric; prefer a built-in aggregation such as top_metrics, max or min");
+            findings.add(new WorkflowFinding(id(), FindingSeverity.WARNING, WorkflowDefinitions.TRANSFORM, path, message, false));
+        }
+        return findings;
+    }
+
+    /**
+     * Recognises scripts of the form: the map script assigns one date field and one value field to locals, keeps the
+     * value whenever the date local compares greater (or smaller) than the date held in state, combine returns the
+     * state unchanged, and reduce picks the state whose date compares the same way. Anything else is not matched.
+     */
+    private Optional<LatestValue> matchLatestValue(JsonNode scriptedMetric) {
+        String mapScript = scriptText(scriptedMetric.path("map_script"));
+        String combineScript = scriptText(scriptedMetric.path("combine_script"));
+        String reduceScript = scriptText(scriptedMetric.path("reduce_script"));
+        if (mapScript.isBlank() || reduceScript.isBlank() || !combineScript.replaceAll("\\s+", "").equals("returnstate;")) {
+            return Optional.empty();
+        }
+        Matcher dateMatcher = DATE_ASSIGNMENT.matcher(mapScript);
+        if (!dateMatcher.find()) {
+            return Optional.empty();
+        }
+        String dateVariable = dateMatcher.group(1);
+        String sortField = dateMatcher.group(2);
+        Matcher valueMatcher = VALUE_ASSIGNMENT.matcher(mapScript);
+        if (!valueMatcher.find() || valueMatcher.find()) {
+            return Optional.empty();
+        }
+        valueMatcher.reset().find();
+        String valueVariable = valueMatcher.group(1);
+        String metricField = valueMatcher.group(2);
+        if (metricField.equals(sortField) || !onlyReadsFields(mapScript, sortField, metricField)) {
+            return Optional.empty();
+        }
+
+        // every comparison against state in the map script must be the date local against one state field
+        Matcher comparisonMatcher = STATE_COMPARISON.matcher(mapScript);
+        String stateDateField = null;
+        String operator = null;
+        while (comparisonMatcher.find()) {
+            if (!comparisonMatcher.group(1).equals(dateVariable)
+                    || (stateDateField != null && !stateDateField.equals(comparisonMatcher.group(3)))
+                    || (operator != null && !operator.equals(comparisonMatcher.group(2)))) {
+                return Optional.empty();
+            }
+            stateDateField = comparisonMatcher.group(3);
+            operator = comparisonMatcher.group(2);
+        }
+        if (stateDateField == null
+                || !assigns(mapScript, "state." + stateDateField, dateVariable)) {
+            return Optional.empty();
+        }
+        Optional<String> stateValueField = assignedStateField(mapScript, valueVariable);
+        if (stateValueField.isEmpty() || stateValueField.get().equals(stateDateField)) {
+            return Optional.empty();
+        }
+
+        // reduce must pick by the same state field in the same direction and return the stored value unchanged
+        Matcher reduceMatcher = FIELD_COMPARISON.matcher(reduceScript);
+        boolean reducesByDate = false;
+        while (reduceMatcher.find()) {
+            if (!reduceMatcher.group(1).equals(stateDateField)
+                    || !reduceMatcher.group(3).equals(stateDateField)
+                    || !reduceMatcher.group(2).equals(operator)) {
+                return Optional.empty();
+            }
+            reducesByDate = true;
+        }
+        if (!reducesByDate || !returnsStoredValue(reduceScript, stateValueField.get())) {
+            return Optional.empty();
+        }
+        return Optional.of(new LatestValue(sortField, metricField, ">".equals(operator) ? "desc" : "asc"));
+    }
+
+    /**
+     * The reduce script must have a single return of exactly {@code <var>.<field>}, optionally guarded by a null
+     * check ternary, and must not assign to the stored value field.
+     */
+    private boolean returnsStoredValue(String reduceScript, String stateValueField) {
+        String field = Pattern.quote(stateValueField);
+        if (Pattern.compile("\\." + field + "\\s*[-+*/%]?=(?!=)").matcher(reduceScript).find()) {
+            return false;
+        }
+        Matcher returnMatcher = RETURN_STATEMENT.matcher(reduceScript);
+        if (!returnMatcher.find()) {
+            return false;
+        }
+        String expression = returnMatcher.group(1).trim();
+        if (returnMatcher.find()) {
+            return false;
+        }
+        return expression.matches("\\w+\\." + field)
+                || expression.matches("(\\w+)\\s*!=\\s*null\\s*\\?\\s*\\1\\." + field + "\\s*:\\s*null")
+                || expression.matches("(\\w+)\\s*==\\s*null\\s*\\?\\s*null\\s*:\\s*\\1\\." + field);
+    }
+
+    private boolean onlyReadsFields(String script, String... fields) {
+        List<String> allowed = List.of(fields);
+        Matcher matcher = DOC_FIELD.matcher(script);
+        while (matcher.find()) {
+            if (!allowed.contains(matcher.group(1))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean assigns(String script, String target, String variable) {
+        return Pattern.compile(Pattern.quote(target) + "\\s*=\\s*" + Pattern.quote(variable) + "\\s*;").matcher(script).find();
+    }
+
+    private Optional<String> assignedStateField(String script, String variable) {
+        Matcher matcher = Pattern.compile("state\\.(\\w+)\\s*=\\s*" + Pattern.quote(variable) + "\\s*;").matcher(script);
+        return matcher.find() ? Optional.of(matcher.group(1)) : Optional.empty();
+    }
+
+    private String scriptText(JsonNode script) {
+        if (script.isTextual()) {
+            return script.asText();
+        }
+        return script.path("source").asText("");
+    }
+
+    private record LatestValue(String sortField, String metricField, String order) {
+
+        String describe() {
+            return ("desc".equals(order) ? "latest" : "earliest") + " '" + metricField + "' by '" + sortField + "'";
+        }
+
+        String topMetrics() {
+            ObjectNode topMetrics = JsonNodeFactory.instance.objectNode();
+            ObjectNode body = topMetrics.putObject("top_metrics");
+            body.putObject("metrics").put("field", metricField);
+            body.putObject("sort").put(sortField, order);
+            return topMetrics.toString();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.esmanager.workflow.analysis;
+
+import com.esmanager.config.WorkflowAnalysisProperties;
+import com.esmanager.model.FindingSeverity;
+import com.esmanager.model.WorkflowFinding;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flags destination indices with more primary shards than the configured ceiling. Transform destinations hold
+ * pre-aggregated buckets and rarely need more than one shard. Shard count is a sizing decision, so no rewrite is offered.
+ */
+@Component
+@RequiredArgsConstructor
+public class ShardCountRule implements WorkflowAnalysisRule {
+
+    private final WorkflowAnalysisProperties properties;
+
+    @Override
+    public String id() {
+        return "shard-count";
+    }
+
+    @Override
+    public List<WorkflowFinding> analyze(JsonNode schema, JsonNode transform) {
+        List<WorkflowFinding> findings = new ArrayList<>();
+        WorkflowDefinitions.indexSetting(schema, "number_of_shards").ifPresent(setting -> {
+            int shardCount = setting.value().asInt(0);
+            if (shardCount > properties.getMaxPrimaryShards()) {
+                findings.add(new WorkflowFinding(id(), FindingSeverity.WARNING, WorkflowDefinitions.SCHEMA, setting.path(),
+                        "Destination index requests " + shardCount + " primary shards; the limit is " + properties.getMaxPrimaryShards(),
+                        false));
+            }
+        });
+        return findings;
+    }
+}
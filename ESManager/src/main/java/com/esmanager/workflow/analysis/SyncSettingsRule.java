@@ -0,0 +1,61 @@
+package com.esmanager.workflow.analysis;
+
+import com.esmanager.model.FindingSeverity;
+import com.esmanager.model.WorkflowFinding;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flags continuous transforms that rely on the implicit check frequency or sync delay. The rewrite pins the
+ * Elasticsearch defaults explicitly, so behaviour is unchanged while the cost of each checkpoint becomes visible.
+ */
+@Component
+public class SyncSettingsRule implements WorkflowAnalysisRule {
+
+    static final String DEFAULT_FREQUENCY = "1m";
+    static final String DEFAULT_DELAY = "60s";
+
+    @Override
+    public String id() {
+        return "sync-settings";
+    }
+
+    @Override
+    public List<WorkflowFinding> analyze(JsonNode schema, JsonNode transform) {
+        List<WorkflowFinding> findings = new ArrayList<>();
+        JsonNode syncTime = transform.path("sync").path("time");
+        if (syncTime.isMissingNode()) {
+            return findings;
+        }
+        if (!transform.hasNonNull("frequency")) {
+            findings.add(new WorkflowFinding(id(), FindingSeverity.INFO, WorkflowDefinitions.TRANSFORM,
+                    WorkflowDefinitions.pointer("frequency"),
+                    "Continuous transform has no 'frequency'; it checks for changes every " + DEFAULT_FREQUENCY + " by default",
+                    true));
+        }
+        if (!syncTime.hasNonNull("delay")) {
+            findings.add(new WorkflowFinding(id(), FindingSeverity.INFO, WorkflowDefinitions.TRANSFORM,
+                    WorkflowDefinitions.pointer("sync", "time", "delay"),
+                    "Continuous transform has no 'sync.time.delay'; it defaults to " + DEFAULT_DELAY,
+                    true));
+        }
+        return findings;
+    }
+
+    @Override
+    public void rewrite(ObjectNode schema, ObjectNode transform) {
+        if (!(transform.path("sync").path("time") instanceof ObjectNode syncTime)) {
+            return;
+        }
+        if (!transform.hasNonNull("frequency")) {
+            transform.put("frequency", DEFAULT_FREQUENCY);
+        }
+        if (!syncTime.hasNonNull("delay")) {
+            syncTime.put("delay", DEFAULT_DELAY);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.esmanager.workflow.analysis;
+
+import com.esmanager.model.WorkflowFinding;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.List;
+
+public interface WorkflowAnalysisRule {
+
+    /**
+     * Stable identifier reported with every finding raised by this rule.
+     */
+    String id();
+
+    /**
+     * Inspects the destination schema and transform definition of a workflow. Implementations must not mutate the inputs.
+     */
+    List<WorkflowFinding> analyze(JsonNode schema, JsonNode transform);
+
+    /**
+     * Rewrites the given copies in place into an equivalent, cheaper definition. Only invoked when
+     * {@link #analyze(JsonNode, JsonNode)} reported at least one rewritable finding.
+     */
+    default void rewrite(ObjectNode schema, ObjectNode transform) {
+    }
+}
@@ -0,0 +1,132 @@
+package com.esmanager.workflow.analysis;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Shared accessors for the parts of schema/transform JSON that the analysis rules inspect.
+ */
+final class WorkflowDefinitions {
+
+    static final String SCHEMA = "schema";
+    static final String TRANSFORM = "transform";
+
+    private WorkflowDefinitions() {
+    }
+
+    /**
+     * Pivot aggregations keyed by output name. Elasticsearch accepts both "aggregations" and "aggs".
+     */
+    static String aggregationsKey(JsonNode transform) {
+        return transform.path("pivot").has("aggs") ? "aggs" : "aggregations";
+    }
+
+    static Map<String, JsonNode> aggregations(JsonNode transform) {
+        return fields(transform.path("pivot").path(aggregationsKey(transform)));
+    }
+
+    static Map<String, JsonNode> groupBy(JsonNode transform) {
+        return fields(transform.path("pivot").path("group_by"));
+    }
+
+    static JsonNode mappingProperties(JsonNode schema) {
+        return schema.path("mappings").path("properties");
+    }
+
+    /**
+     * Index settings may be nested under "index", declared with a dotted "index." key, or declared flat; returns
+     * whichever holds the setting together with its JSON pointer.
+     */
+    static Optional<IndexSetting> indexSetting(JsonNode schema, String name) {
+        JsonNode settings = schema.path("settings");
+        if (settings.path("index").has(name)) {
+            return Optional.of(new IndexSetting(pointer("settings", "index", name), settings.path("index").path(name)));
+        }
+        if (settings.has("index." + name)) {
+            return Optional.of(new IndexSetting(pointer("settings", "index." + name), settings.path("index." + name)));
+        }
+        if (settings.has(name)) {
+            return Optional.of(new IndexSetting(pointer("settings", name), settings.path(name)));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Mapping of a pivot output name. Dotted names are written into object fields, so "agent.name" resolves to
+     * {@code properties.agent.properties.name}; a mapping key that itself contains dots is matched as well.
+     */
+    static JsonNode mapping(JsonNode properties, String name) {
+        return mappingPath(properties, name)
+                .map(path -> {
+                    JsonNode node = properties;
+                    for (String segment : path) {
+                        node = node.path(segment);
+                    }
+                    return node;
+                })
+                .orElse(MissingNode.getInstance());
+    }
+
+    /**
+     * Segments leading from {@code properties} to the mapping of the given output name, if it is mapped.
+     */
+    static Optional<List<String>> mappingPath(JsonNode properties, String name) {
+        if (properties.has(name)) {
+            return Optional.of(List.of(name));
+        }
+        for (int dot = name.indexOf('.'); dot > 0; dot = name.indexOf('.', dot + 1)) {
+            String prefix = name.substring(0, dot);
+            JsonNode nested = properties.path(prefix).path("properties");
+            if (!nested.isObject()) {
+                continue;
+            }
+            Optional<List<String>> rest = mappingPath(nested, name.substring(dot + 1));
+            if (rest.isPresent()) {
+                List<String> path = new ArrayList<>();
+                path.add(prefix);
+                path.add("properties");
+                path.addAll(rest.get());
+                return Optional.of(path);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Whether the mapping declares a concrete field type rather than an object container.
+     */
+    static boolean isLeafMapping(JsonNode mapping) {
+        String type = mapping.path("type").asText("");
+        return !type.isEmpty() && !"object".equals(type) && !"nested".equals(type);
+    }
+
+    static String pointer(String... segments) {
+        StringBuilder builder = new StringBuilder();
+        for (String segment : segments) {
+            builder.append('/').append(segment.replace("~", "~0").replace("/", "~1"));
+        }
+        return builder.toString();
+    }
+
+    private static Map<String, JsonNode> fields(JsonNode node) {
+        Map<String, JsonNode> result = new LinkedHashMap<>();
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> iterator = node.fields();
+            while (iterator.hasNext()) {
+                Map.Entry<String, JsonNode> entry = iterator.next();
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    record IndexSetting(String path, JsonNode value) {
+    }
+}
@@ -0,0 +1,89 @@
+package com.esmanager.workflow.analysis;
+
+import com.esmanager.config.WorkflowAnalysisProperties;
+import com.esmanager.model.FindingSeverity;
+import com.esmanager.model.WorkflowAnalysisReport;
+import com.esmanager.model.WorkflowFinding;
+import com.esmanager.workflow.TransformWorkflow;
+import com.esmanager.workflow.WorkflowRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs every {@link WorkflowAnalysisRule} bean over each registered workflow and keeps the resulting reports.
+ * With {@code workflow.analysis.fail-fast} enabled, startup aborts when any workflow has a warning.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WorkflowPerformanceAnalyzer {
+
+    private final WorkflowRegistry workflowRegistry;
+    private final List<WorkflowAnalysisRule> rules;
+    private final WorkflowAnalysisProperties properties;
+    private final Map<String, WorkflowAnalysisReport> reportsById = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void analyzeWorkflows() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<String> violations = new ArrayList<>();
+        for (TransformWorkflow workflow : workflowRegistry.workflows()) {
+            WorkflowAnalysisReport report = getReport(workflow.id());
+            for (WorkflowFinding finding : report.findings()) {
+                if (finding.severity() == FindingSeverity.WARNING) {
+                    log.warn("Workflow '{}' [{}] {}{}: {}", workflow.id(), finding.ruleId(), finding.resource(), finding.path(), finding.message());
+                    violations.add(workflow.id() + " " + finding.resource() + finding.path() + ": " + finding.message());
+                } else {
+                    log.info("Workflow '{}' [{}] {}{}: {}", workflow.id(), finding.ruleId(), finding.resource(), finding.path(), finding.message());
+                }
+            }
+        }
+        if (properties.isFailFast() && !violations.isEmpty()) {
+            throw new IllegalStateException("Workflow performance analysis failed: " + String.join("; ", violations));
+        }
+    }
+
+    /**
+     * Returns the analysis report for the workflow, or an empty report when analysis is disabled.
+     */
+    public WorkflowAnalysisReport getReport(String workflowId) {
+        TransformWorkflow workflow = workflowRegistry.getRequired(workflowId);
+        if (!properties.isEnabled()) {
+            return new WorkflowAnalysisReport(workflow.id(), List.of(), null, null);
+        }
+        return reportsById.computeIfAbsent(workflow.id(), id -> analyze(workflow));
+    }
+
+    private WorkflowAnalysisReport analyze(TransformWorkflow workflow) {
+        JsonNode schema = workflow.schemaJson();
+        JsonNode transform = workflow.transformJson();
+        JsonNode rewrittenSchema = schema.deepCopy();
+        JsonNode rewrittenTransform = transform.deepCopy();
+        boolean rewritten = false;
+        List<WorkflowFinding> findings = new ArrayList<>();
+        for (WorkflowAnalysisRule rule : rules) {
+            List<WorkflowFinding> ruleFindings = rule.analyze(schema, transform);
+            findings.addAll(ruleFindings);
+            boolean rewritable = ruleFindings.stream().anyMatch(WorkflowFinding::rewritable);
+            if (rewritable && rewrittenSchema instanceof ObjectNode schemaNode && rewrittenTransform instanceof ObjectNode transformNode) {
+                rule.rewrite(schemaNode, transformNode);
+                rewritten = true;
+            }
+        }
+        if (!rewritten) {
+            return new WorkflowAnalysisReport(workflow.id(), List.copyOf(findings), null, null);
+        }
+        return new WorkflowAnalysisReport(workflow.id(), List.copyOf(findings), rewrittenSchema, rewrittenTransform);
+    }
+}
@@ -0,0 +1,64 @@
+package com.esmanager.workflow.analysis;
+
+import com.esmanager.model.WorkflowFinding;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocValuesRuleTest {
+
+    private static final String TRANSFORM = """
+            {"pivot": {"group_by": {"agent.name": {"terms": {"field": "agent.name"}}},
+                       "aggregations": {"total": {"sum": {"field": "value"}}}}}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DocValuesRule rule = new DocValuesRule();
+
+    @Test
+    void reportsTextGroupByFieldWithoutRewrite() throws Exception {
+        JsonNode schema = objectMapper.readTree("""
+                {"mappings": {"properties": {"agent": {"properties": {"name": {"type": "text"}}}}}}
+                """);
+
+        List<WorkflowFinding> findings = rule.analyze(schema, objectMapper.readTree(TRANSFORM));
+
+        assertThat(findings).singleElement().satisfies(finding -> {
+            assertThat(finding.path()).isEqualTo("/mappings/properties/agent/properties/name");
+            assertThat(finding.message()).contains("mapped as text");
+            assertThat(finding.rewritable()).isFalse();
+        });
+    }
+
+    @Test
+    void removesDisabledDocValuesFromNestedGroupByField() throws Exception {
+        JsonNode schema = objectMapper.readTree("""
+                {"mappings": {"properties": {"agent": {"properties": {"name": {"type": "keyword", "doc_values": false}}}}}}
+                """);
+        ObjectNode rewritten = schema.deepCopy();
+
+        List<WorkflowFinding> findings = rule.analyze(schema, objectMapper.readTree(TRANSFORM));
+        rule.rewrite(rewritten, (ObjectNode) objectMapper.readTree(TRANSFORM));
+
+        assertThat(findings).singleElement().satisfies(finding -> {
+            assertThat(finding.path()).isEqualTo("/mappings/properties/agent/properties/name");
+            assertThat(finding.rewritable()).isTrue();
+        });
+        assertThat(rewritten.at("/mappings/properties/agent/properties/name").has("doc_values")).isFalse();
+        assertThat(rewritten.at("/mappings/properties/agent/properties/name/type").asText()).isEqualTo("keyword");
+    }
+
+    @Test
+    void acceptsKeywordGroupByField() throws Exception {
+        JsonNode schema = objectMapper.readTree("""
+                {"mappings": {"properties": {"agent.name": {"type": "keyword"}}}}
+                """);
+
+        assertThat(rule.analyze(schema, objectMapper.readTree(TRANSFORM))).isEmpty();
+    }
+}
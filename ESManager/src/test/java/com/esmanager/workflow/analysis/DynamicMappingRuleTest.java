@@ -0,0 +1,151 @@
+package com.esmanager.workflow.analysis;
+
+import com.esmanager.model.WorkflowFinding;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DynamicMappingRuleTest {
+
+    private static final String TRANSFORM = """
+            {"pivot": {"group_by": {"time": {"date_histogram": {"field": "timestamp", "fixed_interval": "1m"}}},
+                       "aggregations": {"total": {"sum": {"field": "value"}}}}}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DynamicMappingRule rule = new DynamicMappingRule();
+
+    @Test
+    void rewritesOmittedRootDynamicWhenAllOutputsMapped() throws Exception {
+        assertRootRewrite("""
+                {"mappings": {"properties": {"time": {"type": "date"}, "total": {"type": "double"}}}}
+                """);
+    }
+
+    @Test
+    void rewritesTrueRootDynamicWhenAllOutputsMapped() throws Exception {
+        assertRootRewrite("""
+                {"mappings": {"dynamic": true, "properties": {"time": {"type": "date"}, "total": {"type": "double"}}}}
+                """);
+    }
+
+    @Test
+    void rewritesRuntimeRootDynamicWhenAllOutputsMapped() throws Exception {
+        assertRootRewrite("""
+                {"mappings": {"dynamic": "runtime", "properties": {"time": {"type": "date"}, "total": {"type": "double"}}}}
+                """);
+    }
+
+    @Test
+    void reportsObjectThatReenablesDynamicUnderStrictRoot() throws Exception {
+        JsonNode schema = objectMapper.readTree("""
+                {"mappings": {"dynamic": "strict", "properties": {"time": {"type": "date"}, "total": {"type": "double"},
+                              "meta": {"dynamic": true, "properties": {}}}}}
+                """);
+
+        List<WorkflowFinding> findings = rule.analyze(schema, objectMapper.readTree(TRANSFORM));
+
+        assertThat(findings).singleElement().satisfies(finding -> {
+            assertThat(finding.path()).isEqualTo("/mappings/properties/meta/dynamic");
+            assertThat(finding.rewritable()).isFalse();
+        });
+    }
+
+    @Test
+    void reportsSchemaWithoutMappings() throws Exception {
+        List<WorkflowFinding> findings = rule.analyze(objectMapper.readTree("{\"settings\": {}}"), objectMapper.readTree(TRANSFORM));
+
+        assertThat(findings).singleElement().satisfies(finding -> {
+            assertThat(finding.path()).isEqualTo("/mappings");
+            assertThat(finding.rewritable()).isFalse();
+        });
+    }
+
+    @Test
+    void doesNotRewriteWhenOutputUnmapped() throws Exception {
+        assertNoRewrite("""
+                {"mappings": {"properties": {"time": {"type": "date"}}}}
+                """, TRANSFORM);
+    }
+
+    @Test
+    void doesNotRewriteWhenMultiValueAggregationMappedAsBareObject() throws Exception {
+        assertNoRewrite("""
+                {"mappings": {"properties": {"time": {"type": "date"}, "s": {"type": "object"}}}}
+                """, """
+                {"pivot": {"group_by": {"time": {"date_histogram": {"field": "timestamp", "fixed_interval": "1m"}}},
+                           "aggregations": {"s": {"stats": {"field": "value"}}}}}
+                """);
+    }
+
+    @Test
+    void doesNotRewriteWhenDottedOutputMappedAsBareObject() throws Exception {
+        assertNoRewrite("""
+                {"mappings": {"properties": {"time": {"type": "date"}, "a": {"type": "object"}}}}
+                """, """
+                {"pivot": {"group_by": {"time": {"date_histogram": {"field": "timestamp", "fixed_interval": "1m"}}},
+                           "aggregations": {"a.b": {"max": {"field": "value"}}}}}
+                """);
+    }
+
+    @Test
+    void rewritesWhenStatsSubFieldsAndDottedOutputsMapped() throws Exception {
+        JsonNode schema = objectMapper.readTree("""
+                {"mappings": {"properties": {"time": {"type": "date"},
+                              "s": {"properties": {"count": {"type": "long"}, "min": {"type": "double"}, "max": {"type": "double"},
+                                                   "avg": {"type": "double"}, "sum": {"type": "double"}}},
+                              "a": {"properties": {"b": {"type": "double"}}}}}}
+                """);
+        JsonNode transform = objectMapper.readTree("""
+                {"pivot": {"group_by": {"time": {"date_histogram": {"field": "timestamp", "fixed_interval": "1m"}}},
+                           "aggregations": {"s": {"stats": {"field": "value"}}, "a.b": {"max": {"field": "value"}}}}}
+                """);
+
+        assertThat(rule.analyze(schema, transform)).singleElement()
+                .satisfies(finding -> assertThat(finding.rewritable()).isTrue());
+    }
+
+    @Test
+    void doesNotRewriteUndeterminableAggregationOutput() throws Exception {
+        assertNoRewrite("""
+                {"mappings": {"properties": {"time": {"type": "date"}, "p": {"properties": {"50": {"type": "double"}}}}}}
+                """, """
+                {"pivot": {"group_by": {"time": {"date_histogram": {"field": "timestamp", "fixed_interval": "1m"}}},
+                           "aggregations": {"p": {"percentiles": {"field": "value", "percents": [50]}}}}}
+                """);
+    }
+
+    private void assertRootRewrite(String schemaJson) throws Exception {
+        JsonNode schema = objectMapper.readTree(schemaJson);
+        ObjectNode rewritten = schema.deepCopy();
+
+        List<WorkflowFinding> findings = rule.analyze(schema, objectMapper.readTree(TRANSFORM));
+        rule.rewrite(rewritten, (ObjectNode) objectMapper.readTree(TRANSFORM));
+
+        assertThat(findings).singleElement().satisfies(finding -> {
+            assertThat(finding.path()).isEqualTo("/mappings/dynamic");
+            assertThat(finding.rewritable()).isTrue();
+        });
+        assertThat(rewritten.path("mappings").path("dynamic").asText()).isEqualTo("false");
+    }
+
+    private void assertNoRewrite(String schemaJson, String transformJson) throws Exception {
+        JsonNode schema = objectMapper.readTree(schemaJson);
+        ObjectNode rewritten = schema.deepCopy();
+        JsonNode transform = objectMapper.readTree(transformJson);
+
+        List<WorkflowFinding> findings = rule.analyze(schema, transform);
+        rule.rewrite(rewritten, (ObjectNode) transform);
+
+        assertThat(findings).singleElement().satisfies(finding -> {
+            assertThat(finding.message()).contains("not fully mapped explicitly");
+            assertThat(finding.rewritable()).isFalse();
+        });
+        assertThat(rewritten).isEqualTo(schema);
+    }
+}
@@ -0,0 +1,53 @@
+package com.esmanager.workflow.analysis;
+
+import com.esmanager.config.WorkflowAnalysisProperties;
+import com.esmanager.model.WorkflowFinding;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageSizeRuleTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PageSizeRule rule = new PageSizeRule(new WorkflowAnalysisProperties());
+
+    @Test
+    void clampsPageSizeInSettings() {
+        ObjectNode transform = objectMapper.createObjectNode();
+        transform.putObject("settings").put("max_page_search_size", 65536);
+
+        List<WorkflowFinding> findings = rule.analyze(objectMapper.createObjectNode(), transform);
+        rule.rewrite(objectMapper.createObjectNode(), transform);
+
+        assertThat(findings).singleElement().satisfies(finding -> {
+            assertThat(finding.path()).isEqualTo("/settings/max_page_search_size");
+            assertThat(finding.rewritable()).isTrue();
+        });
+        assertThat(transform.path("settings").path("max_page_search_size").asInt()).isEqualTo(10000);
+    }
+
+    @Test
+    void clampsPageSizeInPivot() {
+        ObjectNode transform = objectMapper.createObjectNode();
+        transform.putObject("pivot").put("max_page_search_size", 20000);
+
+        List<WorkflowFinding> findings = rule.analyze(objectMapper.createObjectNode(), transform);
+        rule.rewrite(objectMapper.createObjectNode(), transform);
+
+        assertThat(findings).singleElement()
+                .satisfies(finding -> assertThat(finding.path()).isEqualTo("/pivot/max_page_search_size"));
+        assertThat(transform.path("pivot").path("max_page_search_size").asInt()).isEqualTo(10000);
+    }
+
+    @Test
+    void acceptsPageSizeWithinLimit() {
+        ObjectNode transform = objectMapper.createObjectNode();
+        transform.putObject("settings").put("max_page_search_size", 500);
+
+        assertThat(rule.analyze(objectMapper.createObjectNode(), transform)).isEmpty();
+    }
+}
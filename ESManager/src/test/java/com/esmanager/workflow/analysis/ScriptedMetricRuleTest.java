@@ -0,0 +1,102 @@
+package com.esmanager.workflow.analysis;
+
+import com.esmanager.model.WorkflowFinding;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScriptedMetricRuleTest {
+
+    private static final String LATEST_MAP = "long ts = doc['timestamp'].value.toInstant().toEpochMilli(); double val = doc['value'].value; "
+            + "if (state.value == null || ts >= state.timestamp) { state.timestamp = ts; state.value = val; }";
+    private static final String LATEST_REDUCE = "def latest = null; for (state in states) { if (latest == null || state.timestamp > latest.timestamp) { latest = state; } } "
+            + "return latest != null ? latest.value : null;";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScriptedMetricRule rule = new ScriptedMetricRule();
+
+    @Test
+    void suggestsTopMetricsForLatestValueScript() {
+        List<WorkflowFinding> findings = rule.analyze(objectMapper.createObjectNode(), transform(LATEST_MAP, LATEST_REDUCE));
+
+        assertThat(findings).hasSize(1);
+        WorkflowFinding finding = findings.get(0);
+        assertThat(finding.path()).isEqualTo("/pivot/aggregations/close");
+        assertThat(finding.rewritable()).isFalse();
+        assertThat(finding.message())
+                .contains("latest 'value' by 'timestamp'")
+                .contains("{\"top_metrics\":{\"metrics\":{\"field\":\"value\"},\"sort\":{\"timestamp\":\"desc\"}}}")
+                .contains("'close.value'");
+    }
+
+    @Test
+    void suggestsAscendingSortForEarliestValueScript() {
+        String map = LATEST_MAP.replace("ts >= state.timestamp", "ts < state.timestamp");
+        String reduce = LATEST_REDUCE.replace("state.timestamp > latest.timestamp", "state.timestamp < latest.timestamp");
+
+        List<WorkflowFinding> findings = rule.analyze(objectMapper.createObjectNode(), transform(map, reduce));
+
+        assertThat(findings).singleElement()
+                .satisfies(finding -> assertThat(finding.message()).contains("earliest 'value' by 'timestamp'").contains("\"timestamp\":\"asc\""));
+    }
+
+    @Test
+    void doesNotTreatMaxValueScriptAsLatestValue() {
+        String map = "long ts = doc['timestamp'].value.toInstant().toEpochMilli(); double v = doc['value'].value; "
+                + "if (state.max == null || v > state.max) { state.timestamp = ts; state.max = v; }";
+        String reduce = "def best = null; for (state in states) { if (best == null || state.max > best.max) { best = state; } } "
+                + "return best != null ? best.max : null;";
+
+        List<WorkflowFinding> findings = rule.analyze(objectMapper.createObjectNode(), transform(map, reduce));
+
+        assertThat(findings).singleElement().satisfies(finding -> {
+            assertThat(finding.rewritable()).isFalse();
+            assertThat(finding.message()).doesNotContain("top_metrics\":").contains("prefer a built-in aggregation");
+        });
+    }
+
+    @Test
+    void doesNotTreatSummingReduceAsLatestValue() {
+        String reduce = "double total = 0; for (state in states) { if (state.timestamp > 0) { total += state.value; } } return total;";
+
+        List<WorkflowFinding> findings = rule.analyze(objectMapper.createObjectNode(), transform(LATEST_MAP, reduce));
+
+        assertThat(findings).singleElement()
+                .satisfies(finding -> assertThat(finding.message()).contains("prefer a built-in aggregation"));
+    }
+
+    @Test
+    void doesNotTreatTransformedReturnValueAsLatestValue() {
+        for (String expression : List.of("latest.value * 2", "latest.value - 1", "latest.value / 10", "Math.abs(latest.value)")) {
+            String reduce = LATEST_REDUCE.replace("return latest != null ? latest.value : null;",
+                    "return latest != null ? " + expression + " : null;");
+
+            List<WorkflowFinding> findings = rule.analyze(objectMapper.createObjectNode(), transform(LATEST_MAP, reduce));
+
+            assertThat(findings).singleElement()
+                    .satisfies(finding -> assertThat(finding.message()).as(expression).contains("prefer a built-in aggregation"));
+        }
+    }
+
+    @Test
+    void ignoresBuiltInAggregations() {
+        ObjectNode transform = objectMapper.createObjectNode();
+        transform.putObject("pivot").putObject("aggregations").putObject("close").putObject("max").put("field", "value");
+
+        assertThat(rule.analyze(objectMapper.createObjectNode(), transform)).isEmpty();
+    }
+
+    private ObjectNode transform(String mapScript, String reduceScript) {
+        ObjectNode transform = objectMapper.createObjectNode();
+        ObjectNode scriptedMetric = transform.putObject("pivot").putObject("aggregations").putObject("close").putObject("scripted_metric");
+        scriptedMetric.put("init_script", "state.timestamp = 0; state.value = null;");
+        scriptedMetric.put("map_script", mapScript);
+        scriptedMetric.put("combine_script", "return state;");
+        scriptedMetric.put("reduce_script", reduceScript);
+        return transform;
+    }
+}
@@ -0,0 +1,46 @@
+package com.esmanager.workflow.analysis;
+
+import com.esmanager.config.WorkflowAnalysisProperties;
+import com.esmanager.model.WorkflowFinding;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardCountRuleTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ShardCountRule rule = new ShardCountRule(new WorkflowAnalysisProperties());
+
+    @Test
+    void reportsNestedShardCountAboveCeiling() throws Exception {
+        assertReported("{\"settings\": {\"index\": {\"number_of_shards\": 3}}}", "/settings/index/number_of_shards");
+    }
+
+    @Test
+    void reportsDottedShardCountAboveCeiling() throws Exception {
+        assertReported("{\"settings\": {\"index.number_of_shards\": \"3\"}}", "/settings/index.number_of_shards");
+    }
+
+    @Test
+    void reportsFlatShardCountAboveCeiling() throws Exception {
+        assertReported("{\"settings\": {\"number_of_shards\": 3}}", "/settings/number_of_shards");
+    }
+
+    @Test
+    void acceptsShardCountAtCeiling() throws Exception {
+        assertThat(rule.analyze(objectMapper.readTree("{\"settings\": {\"index\": {\"number_of_shards\": 1}}}"),
+                objectMapper.createObjectNode())).isEmpty();
+    }
+
+    private void assertReported(String schemaJson, String path) throws Exception {
+        List<WorkflowFinding> findings = rule.analyze(objectMapper.readTree(schemaJson), objectMapper.createObjectNode());
+
+        assertThat(findings).singleElement().satisfies(finding -> {
+            assertThat(finding.path()).isEqualTo(path);
+            assertThat(finding.rewritable()).isFalse();
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.esmanager.workflow.analysis;
+
+import com.esmanager.model.FindingSeverity;
+import com.esmanager.model.WorkflowFinding;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SyncSettingsRuleTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SyncSettingsRule rule = new SyncSettingsRule();
+
+    @Test
+    void pinsDefaultFrequencyAndDelay() throws Exception {
+        JsonNode transform = objectMapper.readTree("{\"sync\": {\"time\": {\"field\": \"timestamp\"}}}");
+        ObjectNode rewritten = transform.deepCopy();
+
+        List<WorkflowFinding> findings = rule.analyze(objectMapper.createObjectNode(), transform);
+        rule.rewrite(objectMapper.createObjectNode(), rewritten);
+
+        assertThat(findings).extracting(WorkflowFinding::path).containsExactly("/frequency", "/sync/time/delay");
+        assertThat(findings).allSatisfy(finding -> {
+            assertThat(finding.severity()).isEqualTo(FindingSeverity.INFO);
+            assertThat(finding.rewritable()).isTrue();
+        });
+        assertThat(rewritten.path("frequency").asText()).isEqualTo("1m");
+        assertThat(rewritten.at("/sync/time/delay").asText()).isEqualTo("60s");
+    }
+
+    @Test
+    void keepsExplicitSettings() throws Exception {
+        JsonNode transform = objectMapper.readTree("{\"frequency\": \"10s\", \"sync\": {\"time\": {\"field\": \"timestamp\", \"delay\": \"2s\"}}}");
+
+        assertThat(rule.analyze(objectMapper.createObjectNode(), transform)).isEmpty();
+    }
+
+    @Test
+    void ignoresBatchTransforms() throws Exception {
+        assertThat(rule.analyze(objectMapper.createObjectNode(), objectMapper.readTree("{\"pivot\": {}}"))).isEmpty();
+    }
+}
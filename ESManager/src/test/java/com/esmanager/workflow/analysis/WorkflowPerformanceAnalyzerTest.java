@@ -0,0 +1,88 @@
+package com.esmanager.workflow.analysis;
+
+import com.esmanager.config.WorkflowAnalysisProperties;
+import com.esmanager.model.FindingSeverity;
+import com.esmanager.model.WorkflowAnalysisReport;
+import com.esmanager.model.WorkflowFinding;
+import com.esmanager.workflow.TransformWorkflow;
+import com.esmanager.workflow.WorkflowRegistry;
+import com.esmanager.workflows.randomwalk.RandomWalkWorkflow;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkflowPerformanceAnalyzerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WorkflowAnalysisProperties properties = new WorkflowAnalysisProperties();
+
+    @Test
+    void reportsScriptedMetricForBundledRandomWalkWorkflow() {
+        WorkflowPerformanceAnalyzer analyzer = analyzer(new RandomWalkWorkflow(objectMapper));
+
+        WorkflowAnalysisReport report = analyzer.getReport("random-walk");
+
+        assertThat(report.findings()).singleElement().satisfies(finding -> {
+            assertThat(finding.ruleId()).isEqualTo("scripted-metric");
+            assertThat(finding.severity()).isEqualTo(FindingSeverity.WARNING);
+            assertThat(finding.rewritable()).isFalse();
+        });
+        assertThat(report.rewrittenSchema()).isNull();
+        assertThat(report.rewrittenTransform()).isNull();
+    }
+
+    @Test
+    void failFastThrowsOnWarning() {
+        properties.setFailFast(true);
+        WorkflowPerformanceAnalyzer analyzer = analyzer(new RandomWalkWorkflow(objectMapper));
+
+        assertThatThrownBy(analyzer::analyzeWorkflows)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("random-walk");
+    }
+
+    @Test
+    void failFastIgnoresInfoFindings() throws Exception {
+        properties.setFailFast(true);
+        WorkflowPerformanceAnalyzer analyzer = analyzer(new TestWorkflow("sample",
+                objectMapper.readTree("""
+                        {"mappings": {"dynamic": "strict", "properties": {"time": {"type": "date"}, "total": {"type": "double"}}}}
+                        """),
+                objectMapper.readTree("""
+                        {"sync": {"time": {"field": "timestamp"}},
+                         "pivot": {"group_by": {"time": {"date_histogram": {"field": "timestamp", "fixed_interval": "1m"}}},
+                                   "aggregations": {"total": {"sum": {"field": "value"}}}}}
+                        """)));
+
+        assertThatCode(analyzer::analyzeWorkflows).doesNotThrowAnyException();
+        WorkflowAnalysisReport report = analyzer.getReport("sample");
+        assertThat(report.findings()).extracting(WorkflowFinding::severity).containsOnly(FindingSeverity.INFO);
+        assertThat(report.rewrittenTransform().path("frequency").asText()).isEqualTo("1m");
+        assertThat(report.rewrittenTransform().path("sync").path("time").path("delay").asText()).isEqualTo("60s");
+    }
+
+    @Test
+    void disabledAnalysisReturnsEmptyReport() {
+        properties.setEnabled(false);
+        properties.setFailFast(true);
+        WorkflowPerformanceAnalyzer analyzer = analyzer(new RandomWalkWorkflow(objectMapper));
+
+        assertThatCode(analyzer::analyzeWorkflows).doesNotThrowAnyException();
+        assertThat(analyzer.getReport("random-walk").findings()).isEmpty();
+    }
+
+    private WorkflowPerformanceAnalyzer analyzer(TransformWorkflow workflow) {
+        List<WorkflowAnalysisRule> rules = List.of(new ScriptedMetricRule(), new SyncSettingsRule(), new PageSizeRule(properties),
+                new DynamicMappingRule(), new DocValuesRule(), new ShardCountRule(properties));
+        return new WorkflowPerformanceAnalyzer(new WorkflowRegistry(List.of(workflow)), rules, properties);
+    }
+
+    private record TestWorkflow(String id, JsonNode schemaJson, JsonNode transformJson) implements TransformWorkflow {
+    }
+}